@@ -0,0 +1,222 @@
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The state of one player's game on a shared puzzle. Kept small on purpose:
+// the puzzle itself is shared, so a session only holds the player's 81 cells,
+// a packed undo history and a few counters.
+public final class GameSession {
+
+    public static final int HINT_COOLDOWN_MS = 2000;
+
+    private final long id;
+    private final String playerName;
+    private final SudokuPuzzle puzzle;
+    private final Leaderboard leaderboard;
+
+    private final byte[] grid = new byte[81];
+    private int filledCount = 0;
+
+    // Each undo entry is (cell << 4) | oldValue
+    private int[] history = new int[16];
+    private int historySize = 0;
+
+    // Time is measured from the session's own start, not from the shared tick
+    private final long startNanos = System.nanoTime();
+    private volatile long finishedMillis = 0;
+    private volatile boolean finished = false;
+    private int errorCount = 0;
+    private int hintCount = 0;
+    private long lastHintTime = 0;
+    private volatile Runnable tickListener;
+
+    GameSession(long id, String playerName, SudokuPuzzle puzzle, Leaderboard leaderboard) {
+        this.id = id;
+        this.playerName = playerName;
+        this.puzzle = puzzle;
+        this.leaderboard = leaderboard;
+
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                if (puzzle.isInitial(i, j)) {
+                    grid[i * 9 + j] = (byte) puzzle.getSolution(i, j);
+                    filledCount++;
+                }
+            }
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public SudokuPuzzle getPuzzle() {
+        return puzzle;
+    }
+
+    Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public int getValue(int row, int col) {
+        return grid[row * 9 + col];
+    }
+
+    public boolean isInitial(int row, int col) {
+        return puzzle.isInitial(row, col);
+    }
+
+    // Stops counting at the winning move
+    public long getElapsedMillis() {
+        if (finished) return finishedMillis;
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public int getSecondsPlayed() {
+        return (int) (getElapsedMillis() / 1000);
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public int getHintCount() {
+        return hintCount;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    // A full board that is not finished still breaks a rule somewhere
+    public boolean isFull() {
+        return filledCount == 81;
+    }
+
+    // Called on the registry's scheduler thread after every tick, to refresh the display
+    public void setTickListener(Runnable tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    // Returns false (and counts a mistake) when the number breaks a Sudoku rule.
+    // Given cells and finished games ignore moves, so callers should check isFinished() first.
+    public boolean place(int row, int col, int val) {
+        checkCell(row, col);
+        if (val < 1 || val > 9) {
+            throw new IllegalArgumentException("Value must be 1-9: " + val);
+        }
+        if (finished || isInitial(row, col)) return true;
+
+        int cell = row * 9 + col;
+        // Key releases re-send the digit already in the cell; that is not a new move
+        if (grid[cell] == val) return true;
+
+        if (!SudokuPuzzle.isValid(grid, row, col, val)) {
+            errorCount++;
+            setCell(cell, 0);
+            return false;
+        }
+
+        pushHistory(cell);
+        setCell(cell, val);
+        checkWin();
+        return true;
+    }
+
+    public void clear(int row, int col) {
+        checkCell(row, col);
+        if (finished || isInitial(row, col)) return;
+        setCell(row * 9 + col, 0);
+    }
+
+    // Reverts the last move and returns its cell index (row * 9 + col), or -1 if there was none
+    public int undo() {
+        if (finished || historySize == 0) return -1;
+
+        int last = history[--historySize];
+        int cell = last >>> 4;
+        setCell(cell, last & 0xF);
+        return cell;
+    }
+
+    // Milliseconds until another hint is allowed, 0 if one can be given now
+    public long hintCooldownRemaining(long now) {
+        long timeSinceLastHint = now - lastHintTime;
+        return timeSinceLastHint < HINT_COOLDOWN_MS ? HINT_COOLDOWN_MS - timeSinceLastHint : 0;
+    }
+
+    // Fills a random empty cell with the correct value and returns its index. Once the board
+    // is full but unsolved, it corrects a wrong cell instead. Returns -1 if there is nothing to do.
+    public int giveHint(long now) {
+        if (finished) return -1;
+
+        boolean fixWrong = filledCount == 81;
+        int candidates = 0;
+        for (int cell = 0; cell < 81; cell++) {
+            if (needsHint(cell, fixWrong)) candidates++;
+        }
+        if (candidates == 0) return -1;
+
+        // Pick the n-th candidate cell without building a list of them
+        int n = ThreadLocalRandom.current().nextInt(candidates);
+        int cell = 0;
+        while (true) {
+            if (needsHint(cell, fixWrong) && n-- == 0) break;
+            cell++;
+        }
+
+        pushHistory(cell);
+        setCell(cell, puzzle.getSolution(cell / 9, cell % 9));
+        hintCount++;
+        lastHintTime = now;
+        checkWin();
+        return cell;
+    }
+
+    void tick() {
+        if (finished) return;
+        Runnable listener = tickListener;
+        if (listener != null) listener.run();
+    }
+
+    private boolean needsHint(int cell, boolean fixWrong) {
+        if (fixWrong) return grid[cell] != puzzle.getSolution(cell / 9, cell % 9);
+        return grid[cell] == 0;
+    }
+
+    private static void checkCell(int row, int col) {
+        if (row < 0 || row > 8 || col < 0 || col > 8) {
+            throw new IllegalArgumentException("No such cell: (" + row + ", " + col + ")");
+        }
+    }
+
+    private void setCell(int cell, int val) {
+        if (grid[cell] == 0 && val != 0) filledCount++;
+        if (grid[cell] != 0 && val == 0) filledCount--;
+        grid[cell] = (byte) val;
+    }
+
+    private void pushHistory(int cell) {
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, historySize * 2);
+        }
+        history[historySize++] = (cell << 4) | grid[cell];
+    }
+
+    // Hints skip the rule check, so a full board still has to be verified
+    private void checkWin() {
+        if (filledCount < 81) return;
+
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (!SudokuPuzzle.isValid(grid, row, col, grid[row * 9 + col])) return;
+            }
+        }
+        finishedMillis = getElapsedMillis();
+        finished = true;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Finished games on one puzzle, ranked by hints used, then by a score that adds
+// a time penalty for every mistake to the elapsed time.
+// Each result is inserted once when its game ends, so the ranking is never rebuilt.
+public final class Leaderboard {
+
+    public static final long MISTAKE_PENALTY_MS = 30_000;
+
+    public static final class Entry {
+        private final long sessionId;
+        private final String playerName;
+        private final long elapsedMillis;
+        private final int errorCount;
+        private final int hintCount;
+        private final long scoreMillis;
+
+        Entry(long sessionId, String playerName, long elapsedMillis, int errorCount, int hintCount) {
+            this.sessionId = sessionId;
+            this.playerName = playerName;
+            this.elapsedMillis = elapsedMillis;
+            this.errorCount = errorCount;
+            this.hintCount = hintCount;
+            this.scoreMillis = elapsedMillis + errorCount * MISTAKE_PENALTY_MS;
+        }
+
+        public long getSessionId() {
+            return sessionId;
+        }
+
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        public int getHintCount() {
+            return hintCount;
+        }
+
+        // Lower is better
+        public long getScoreMillis() {
+            return scoreMillis;
+        }
+
+        @Override
+        public String toString() {
+            long seconds = elapsedMillis / 1000;
+            return String.format("%s  %02d:%02d.%d  Mistakes: %d  Hints: %d",
+                    playerName, seconds / 60, seconds % 60, elapsedMillis % 1000 / 100, errorCount, hintCount);
+        }
+    }
+
+    // Hints come first so that a hinted game never beats an unaided one
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::getHintCount)
+            .thenComparingLong(Entry::getScoreMillis)
+            .thenComparingLong(Entry::getSessionId);
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(RANKING);
+
+    void record(GameSession session) {
+        entries.add(new Entry(session.getId(), session.getPlayerName(),
+                session.getElapsedMillis(), session.getErrorCount(), session.getHintCount()));
+    }
+
+    public List<Entry> top(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        List<Entry> result = new ArrayList<>(Math.min(count, 64));
+        for (Entry e : entries) {
+            if (result.size() == count) break;
+            result.add(e);
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps every active game in the JVM and refreshes all of their clocks from a
+// single one-second tick, instead of one timer per board.
+public final class SessionRegistry {
+
+    private static final class DefaultHolder {
+        static final SessionRegistry INSTANCE = new SessionRegistry();
+    }
+
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+
+    public SessionRegistry() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sudoku-session-tick");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // The registry shared by the desktop windows
+    public static SessionRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    // Pass a leaderboard to have the result ranked when the game is won, or null for casual play
+    public GameSession open(String playerName, SudokuPuzzle puzzle, Leaderboard leaderboard) {
+        GameSession session = new GameSession(nextId.incrementAndGet(), playerName, puzzle, leaderboard);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // Drops a game, e.g. when the player abandons it; a won game is still ranked
+    public void close(GameSession session) {
+        retire(session);
+    }
+
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    public int activeCount() {
+        return sessions.size();
+    }
+
+    // Stops the tick; games won since the last tick are still ranked
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (GameSession session : sessions.values()) {
+            retire(session);
+        }
+    }
+
+    private void tick() {
+        for (GameSession session : sessions.values()) {
+            try {
+                if (session.isFinished()) {
+                    retire(session);
+                } else {
+                    session.tick();
+                }
+            } catch (RuntimeException ex) {
+                // A failing listener must not stop the clock for every other game;
+                // drop it so the failure is reported once rather than every second
+                session.setTickListener(null);
+                Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, ex);
+            }
+        }
+    }
+
+    // Whoever removes the session first ranks it, so each win is recorded once
+    private void retire(GameSession session) {
+        if (sessions.remove(session.getId()) != null
+                && session.isFinished() && session.getLeaderboard() != null) {
+            session.getLeaderboard().record(session);
+        }
+    }
+}
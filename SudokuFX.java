@@ -10,8 +10,6 @@ import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.animation.PauseTransition;
 import javafx.util.Duration;
 
@@ -19,21 +17,13 @@ import java.util.*;
 
 public class SudokuFX extends Application {
 
-    // Game state variables
-    private int[][] solution = new int[9][9];
-    private int[][] playerGrid = new int[9][9];
-    private boolean[][] isInitial = new boolean[9][9];
+    // Game state lives in the session; its clock is driven by the shared registry
+    private GameSession session;
     private TextField[][] textFields = new TextField[9][9];
-    private ArrayList<int[]> history = new ArrayList<>();
 
     // UI Components
     private Label timeLabel, errorLabel, hintLabel;
     private Button hintButton;
-    private Timeline gameTimer;
-    private int secondsPlayed = 0;
-    private int errorCount = 0;
-    private long lastHintTime = 0;
-    private static final int HINT_COOLDOWN_MS = 2000;
 
     @Override
     public void start(Stage primaryStage) {
@@ -173,12 +163,12 @@ public class SudokuFX extends Application {
 
                 // Add hover effect
                 cellContainer.setOnMouseEntered(e -> {
-                    if (!isInitial[row][col]) {
+                    if (!session.isInitial(row, col)) {
                         cellBg.setFill(Color.rgb(240, 248, 255));
                     }
                 });
                 cellContainer.setOnMouseExited(e -> {
-                    if (!isInitial[row][col]) {
+                    if (!session.isInitial(row, col)) {
                         cellBg.setFill(Color.WHITE);
                     }
                 });
@@ -214,28 +204,25 @@ public class SudokuFX extends Application {
     }
 
     private void handleInput(int r, int c) {
-        if (isInitial[r][c]) return;
+        if (session.isFinished() || session.isInitial(r, c)) return;
 
         String text = textFields[r][c].getText();
         if (text.equals("")) {
-            playerGrid[r][c] = 0;
+            session.clear(r, c);
             return;
         }
 
         try {
             int val = Integer.parseInt(text);
             if (val < 1 || val > 9) throw new Exception();
+            if (session.getValue(r, c) == val) return; // Nothing changed, e.g. Shift or Tab released
 
-            if (isValid(playerGrid, r, c, val)) {
-                history.add(new int[]{r, c, playerGrid[r][c]});
-                playerGrid[r][c] = val;
+            if (session.place(r, c, val)) {
                 textFields[r][c].setStyle(textFields[r][c].getStyle() + "-fx-text-fill: #1976D2;");
                 checkWin();
             } else {
-                errorCount++;
-                errorLabel.setText("❌ Mistakes: " + errorCount);
+                errorLabel.setText("❌ Mistakes: " + session.getErrorCount());
                 textFields[r][c].setText("");
-                playerGrid[r][c] = 0;
 
                 // Visual feedback for wrong answer
                 flashCell(r, c, Color.rgb(255, 82, 82));
@@ -267,103 +254,61 @@ public class SudokuFX extends Application {
         pause.play();
     }
 
-    private boolean isValid(int[][] grid, int row, int col, int num) {
-        for (int i = 0; i < 9; i++) {
-            if (i != col && grid[row][i] == num) return false;
-            if (i != row && grid[i][col] == num) return false;
-        }
-
-        int boxRow = (row / 3) * 3;
-        int boxCol = (col / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                int r = boxRow + i;
-                int c = boxCol + j;
-                if ((r != row || c != col) && grid[r][c] == num) return false;
-            }
-        }
-        return true;
-    }
-
     private void undoMove() {
-        if (history.size() > 0) {
-            int[] last = history.remove(history.size() - 1);
-            int r = last[0];
-            int c = last[1];
-            int oldVal = last[2];
-            playerGrid[r][c] = oldVal;
+        int cell = session.undo();
+        if (cell >= 0) {
+            int r = cell / 9;
+            int c = cell % 9;
+            int oldVal = session.getValue(r, c);
             textFields[r][c].setText(oldVal == 0 ? "" : String.valueOf(oldVal));
         }
     }
 
     private void giveHint() {
         long currentTime = System.currentTimeMillis();
-        long timeSinceLastHint = currentTime - lastHintTime;
+        long cooldownLeft = session.hintCooldownRemaining(currentTime);
 
-        if (timeSinceLastHint < HINT_COOLDOWN_MS) {
-            double secondsLeft = (HINT_COOLDOWN_MS - timeSinceLastHint) / 1000.0;
+        if (cooldownLeft > 0) {
+            double secondsLeft = cooldownLeft / 1000.0;
             showTemporaryAlert(String.format("Hint cooldown: %.1fs", secondsLeft));
             return;
         }
 
-        // Find all empty cells
-        ArrayList<int[]> emptyCells = new ArrayList<>();
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (!isInitial[i][j] && playerGrid[i][j] == 0) {
-                    emptyCells.add(new int[]{i, j});
-                }
-            }
-        }
-
-        if (emptyCells.isEmpty()) {
-            showTemporaryAlert("No empty cells!");
+        // Fill a random empty cell with the correct value
+        int cell = session.giveHint(currentTime);
+        if (cell < 0) {
+            showTemporaryAlert("Nothing left to hint!");
             return;
         }
 
-        // Pick a random empty cell and fill it with the correct value
-        Random rand = new Random();
-        int[] cell = emptyCells.get(rand.nextInt(emptyCells.size()));
-        int row = cell[0];
-        int col = cell[1];
-
-        history.add(new int[]{row, col, playerGrid[row][col]});
-        playerGrid[row][col] = solution[row][col];
-        textFields[row][col].setText(String.valueOf(solution[row][col]));
+        int row = cell / 9;
+        int col = cell % 9;
+        textFields[row][col].setText(String.valueOf(session.getValue(row, col)));
         textFields[row][col].setStyle(textFields[row][col].getStyle() + "-fx-text-fill: #4CAF50;");
 
         // Highlight the hint cell temporarily
         flashCell(row, col, Color.rgb(76, 175, 80));
 
-        lastHintTime = currentTime;
         showTemporaryAlert("Hint provided!");
 
         checkWin();
     }
 
     private void startNewGame() {
-        playerGrid = new int[9][9];
-        solution = new int[9][9];
-        history.clear();
-        errorCount = 0;
-        secondsPlayed = 0;
-        lastHintTime = 0;
-        errorLabel.setText("❌ Mistakes: 0");
-        timeLabel.setText("⏱ Time: 00:00");
-
-        if (gameTimer != null) {
-            gameTimer.stop();
+        SessionRegistry registry = SessionRegistry.getDefault();
+        if (session != null) {
+            registry.close(session);
         }
 
-        fillGrid(solution);
+        SudokuPuzzle puzzle = SudokuPuzzle.generate(new Random().nextLong(), 35); // 35% chance to show number
+        session = registry.open("Player", puzzle, null);
+        errorLabel.setText("❌ Mistakes: 0");
+        timeLabel.setText("⏱ Time: 00:00");
 
-        Random rand = new Random();
         for (int i = 0; i < 9; i++) {
             for (int j = 0; j < 9; j++) {
-                if (rand.nextInt(100) < 35) { // 35% chance to show number
-                    playerGrid[i][j] = solution[i][j];
-                    isInitial[i][j] = true;
-                    textFields[i][j].setText(String.valueOf(solution[i][j]));
+                if (puzzle.isInitial(i, j)) {
+                    textFields[i][j].setText(String.valueOf(puzzle.getSolution(i, j)));
                     textFields[i][j].setEditable(false);
                     textFields[i][j].setStyle(
                             "-fx-background-color: rgba(103, 126, 234, 0.1); " +
@@ -372,8 +317,6 @@ public class SudokuFX extends Application {
                                     "-fx-font-weight: bold;"
                     );
                 } else {
-                    playerGrid[i][j] = 0;
-                    isInitial[i][j] = false;
                     textFields[i][j].setText("");
                     textFields[i][j].setEditable(true);
                     textFields[i][j].setStyle(
@@ -385,46 +328,24 @@ public class SudokuFX extends Application {
             }
         }
 
-        gameTimer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            secondsPlayed++;
+        final GameSession current = session;
+        current.setTickListener(() -> Platform.runLater(() -> {
+            if (current != session) return;
+            int secondsPlayed = current.getSecondsPlayed();
             int m = secondsPlayed / 60;
             int s = secondsPlayed % 60;
             timeLabel.setText(String.format("⏱ Time: %02d:%02d", m, s));
         }));
-        gameTimer.setCycleCount(Timeline.INDEFINITE);
-        gameTimer.play();
-    }
-
-    private boolean fillGrid(int[][] grid) {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (grid[row][col] == 0) {
-                    Integer[] nums = {1, 2, 3, 4, 5, 6, 7, 8, 9};
-                    Collections.shuffle(Arrays.asList(nums));
-                    for (int n : nums) {
-                        if (isValid(grid, row, col, n)) {
-                            grid[row][col] = n;
-                            if (fillGrid(grid)) return true;
-                            grid[row][col] = 0;
-                        }
-                    }
-                    return false;
-                }
-            }
-        }
-        return true;
     }
 
     private void checkWin() {
-        boolean full = true;
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (playerGrid[i][j] == 0) full = false;
+        if (session.isFinished()) {
+            // The session ignores further moves, so stop the board taking input
+            for (int i = 0; i < 9; i++) {
+                for (int j = 0; j < 9; j++) {
+                    textFields[i][j].setEditable(false);
+                }
             }
-        }
-
-        if (full) {
-            gameTimer.stop();
 
             // Create victory alert
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -432,15 +353,17 @@ public class SudokuFX extends Application {
             alert.setHeaderText("🎉 You Won! 🎉");
             alert.setContentText(String.format(
                     "Time: %02d:%02d\nMistakes: %d\n\nGreat job!",
-                    secondsPlayed / 60,
-                    secondsPlayed % 60,
-                    errorCount
+                    session.getSecondsPlayed() / 60,
+                    session.getSecondsPlayed() % 60,
+                    session.getErrorCount()
             ));
 
             DialogPane dialogPane = alert.getDialogPane();
             dialogPane.setStyle("-fx-background-color: white;");
 
             alert.showAndWait();
+        } else if (session.isFull()) {
+            showTemporaryAlert("Board is full but something clashes");
         }
     }
 
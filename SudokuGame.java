@@ -5,16 +5,10 @@ import java.util.*;
 
 public class SudokuGame extends JFrame {
 
-    // Global variables for the game state
-    private int[][] solution = new int[9][9];
-    private int[][] playerGrid = new int[9][9];
-    private boolean[][] isInitial = new boolean[9][9];
+    // The game state is kept in a session, ticked by the shared registry
+    private GameSession session;
     private JTextField[][] textFields = new JTextField[9][9];
-    private ArrayList<int[]> history = new ArrayList<>();
     private JLabel timeLabel, errorLabel;
-    private javax.swing.Timer gameTimer;
-    private int secondsPlayed = 0;
-    private int errorCount = 0;
 
     public SudokuGame() {
         // Setup the basic window settings
@@ -66,41 +60,30 @@ public class SudokuGame extends JFrame {
         add(boardPanel, BorderLayout.CENTER);
         add(bottomPanel, BorderLayout.SOUTH);
 
-        // Simple timer logic
-        gameTimer = new javax.swing.Timer(1000, e -> {
-            secondsPlayed++;
-            int m = secondsPlayed / 60;
-            int s = secondsPlayed % 60;
-            timeLabel.setText(String.format("Time: %02d:%02d", m, s));
-        });
-
         startNewGame();
     }
 
     // Logic to handle user typing into the cells
     private void handleInput(int r, int c) {
-        if (isInitial[r][c]) return;
+        if (session.isFinished() || session.isInitial(r, c)) return;
 
         String text = textFields[r][c].getText();
         if (text.equals("")) {
-            playerGrid[r][c] = 0;
+            session.clear(r, c);
             return;
         }
 
         try {
             int val = Integer.parseInt(text);
             if (val < 1 || val > 9) throw new Exception();
+            if (session.getValue(r, c) == val) return; // Nothing changed, e.g. Shift or Tab released
 
-            if (isValid(playerGrid, r, c, val)) {
-                history.add(new int[]{r, c, playerGrid[r][c]});
-                playerGrid[r][c] = val;
+            if (session.place(r, c, val)) {
                 textFields[r][c].setForeground(Color.BLACK);
                 checkWin();
             } else {
-                errorCount++;
-                errorLabel.setText("Mistakes: " + errorCount);
+                errorLabel.setText("Mistakes: " + session.getErrorCount());
                 textFields[r][c].setText("");
-                playerGrid[r][c] = 0;
                 JOptionPane.showMessageDialog(this, "That number doesn't fit there!");
             }
         } catch (Exception ex) {
@@ -108,97 +91,66 @@ public class SudokuGame extends JFrame {
         }
     }
 
-    // Basic Sudoku rule checking
-    private boolean isValid(int[][] grid, int row, int col, int num) {
-        for (int i = 0; i < 9; i++) {
-            if (grid[row][i] == num || grid[i][col] == num) return false;
-        }
-        int boxRow = (row / 3) * 3;
-        int boxCol = (col / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (grid[boxRow + i][boxCol + j] == num) return false;
-            }
-        }
-        return true;
-    }
-
     // Reverting the last move stored in the list
     private void undoMove() {
-        if (history.size() > 0) {
-            int[] last = history.remove(history.size() - 1);
-            int r = last[0];
-            int c = last[1];
-            int oldVal = last[2];
-            playerGrid[r][c] = oldVal;
+        int cell = session.undo();
+        if (cell >= 0) {
+            int r = cell / 9;
+            int c = cell % 9;
+            int oldVal = session.getValue(r, c);
             textFields[r][c].setText(oldVal == 0 ? "" : String.valueOf(oldVal));
         }
     }
 
-    // Simple puzzle generation by filling and then hiding cells
+    // Start a fresh puzzle in a new session, dropping the old one
     private void startNewGame() {
-        playerGrid = new int[9][9];
-        solution = new int[9][9];
-        history.clear();
-        errorCount = 0;
-        secondsPlayed = 0;
-        errorLabel.setText("Mistakes: 0");
+        SessionRegistry registry = SessionRegistry.getDefault();
+        if (session != null) {
+            registry.close(session);
+        }
 
-        fillGrid(solution);
+        SudokuPuzzle puzzle = SudokuPuzzle.generate(new Random().nextLong(), 40); // 40% chance to show number
+        session = registry.open("Player", puzzle, null);
+        errorLabel.setText("Mistakes: 0");
+        timeLabel.setText("Time: 00:00");
 
-        Random rand = new Random();
         for (int i = 0; i < 9; i++) {
             for (int j = 0; j < 9; j++) {
-                if (rand.nextInt(100) < 40) { // 40% chance to show number
-                    playerGrid[i][j] = solution[i][j];
-                    isInitial[i][j] = true;
-                    textFields[i][j].setText(String.valueOf(solution[i][j]));
+                if (puzzle.isInitial(i, j)) {
+                    textFields[i][j].setText(String.valueOf(puzzle.getSolution(i, j)));
                     textFields[i][j].setEditable(false);
                     textFields[i][j].setBackground(new Color(235, 235, 235));
                 } else {
-                    playerGrid[i][j] = 0;
-                    isInitial[i][j] = false;
                     textFields[i][j].setText("");
                     textFields[i][j].setEditable(true);
                     textFields[i][j].setBackground(Color.WHITE);
                 }
             }
         }
-        gameTimer.start();
-    }
 
-    // Recursive helper to create a valid board
-    private boolean fillGrid(int[][] grid) {
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (grid[row][col] == 0) {
-                    Integer[] nums = {1, 2, 3, 4, 5, 6, 7, 8, 9};
-                    Collections.shuffle(Arrays.asList(nums));
-                    for (int n : nums) {
-                        if (isValid(grid, row, col, n)) {
-                            grid[row][col] = n;
-                            if (fillGrid(grid)) return true;
-                            grid[row][col] = 0;
-                        }
-                    }
-                    return false;
-                }
-            }
-        }
-        return true;
+        // The registry ticks off the Swing thread, so hop back before touching the label
+        final GameSession current = session;
+        current.setTickListener(() -> SwingUtilities.invokeLater(() -> {
+            if (current != session) return;
+            int secondsPlayed = current.getSecondsPlayed();
+            int m = secondsPlayed / 60;
+            int s = secondsPlayed % 60;
+            timeLabel.setText(String.format("Time: %02d:%02d", m, s));
+        }));
     }
 
-    // Checking if the board is full to end the game
+    // Checking if the session is solved to end the game
     private void checkWin() {
-        boolean full = true;
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                if (playerGrid[i][j] == 0) full = false;
+        if (session.isFinished()) {
+            // The session ignores further moves, so stop the board taking input
+            for (int i = 0; i < 9; i++) {
+                for (int j = 0; j < 9; j++) {
+                    textFields[i][j].setEditable(false);
+                }
             }
-        }
-        if (full) {
-            gameTimer.stop();
             JOptionPane.showMessageDialog(this, "You Won!");
+        } else if (session.isFull()) {
+            JOptionPane.showMessageDialog(this, "The board is full, but something clashes.");
         }
     }
 
@@ -0,0 +1,82 @@
+import java.util.*;
+
+// An immutable puzzle: the full solution plus which cells start revealed.
+// One instance is shared by every session playing the same seeded board.
+public final class SudokuPuzzle {
+
+    private final long seed;
+    private final byte[] solution;
+    private final boolean[] isInitial;
+
+    private SudokuPuzzle(long seed, byte[] solution, boolean[] isInitial) {
+        this.seed = seed;
+        this.solution = solution;
+        this.isInitial = isInitial;
+    }
+
+    // Same seed and reveal chance always give the same board
+    public static SudokuPuzzle generate(long seed, int revealPercent) {
+        Random rand = new Random(seed);
+        byte[] solution = new byte[81];
+        fillGrid(solution, rand);
+
+        boolean[] isInitial = new boolean[81];
+        for (int i = 0; i < 81; i++) {
+            isInitial[i] = rand.nextInt(100) < revealPercent;
+        }
+        return new SudokuPuzzle(seed, solution, isInitial);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSolution(int row, int col) {
+        return solution[row * 9 + col];
+    }
+
+    public boolean isInitial(int row, int col) {
+        return isInitial[row * 9 + col];
+    }
+
+    // Recursive helper to create a valid board
+    private static boolean fillGrid(byte[] grid, Random rand) {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (grid[row * 9 + col] == 0) {
+                    Integer[] nums = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+                    Collections.shuffle(Arrays.asList(nums), rand);
+                    for (int n : nums) {
+                        if (isValid(grid, row, col, n)) {
+                            grid[row * 9 + col] = (byte) n;
+                            if (fillGrid(grid, rand)) return true;
+                            grid[row * 9 + col] = 0;
+                        }
+                    }
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Sudoku rule checking, ignoring whatever is already in (row, col)
+    // Grids are stored row-major as 81 cells, 0 meaning empty
+    static boolean isValid(byte[] grid, int row, int col, int num) {
+        for (int i = 0; i < 9; i++) {
+            if (i != col && grid[row * 9 + i] == num) return false;
+            if (i != row && grid[i * 9 + col] == num) return false;
+        }
+
+        int boxRow = (row / 3) * 3;
+        int boxCol = (col / 3) * 3;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                int r = boxRow + i;
+                int c = boxCol + j;
+                if ((r != row || c != col) && grid[r * 9 + c] == num) return false;
+            }
+        }
+        return true;
+    }
+}